@@ -0,0 +1,111 @@
+package game_of_life;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * The ActiveTileLifeBoard class is an engine suited to sparse or mostly settled boards. The
+ * board is divided into square tiles, and a tile is only recomputed when it or one of its
+ * eight neighbouring tiles changed in the previous generation. Quiet tiles are skipped
+ * entirely, since their next generation is known to equal the current one.
+ */
+public class ActiveTileLifeBoard extends LifeBoard {
+    static final int TILE = 16;
+
+    private final int tilesX;
+    private final int tilesY;
+    private final boolean[] active;
+    private boolean activeKnown;
+    private boolean[] changedLast;
+    private boolean[] changedNow;
+
+    /**
+     * Constructs an empty ActiveTileLifeBoard.
+     *
+     * @param width         The number of columns.
+     * @param height        The number of rows.
+     * @param birthRules    The neighbour counts that bring a dead cell to life.
+     * @param survivalRules The neighbour counts that keep a live cell alive.
+     */
+    public ActiveTileLifeBoard(int width, int height, Set<Integer> birthRules, Set<Integer> survivalRules) {
+        super(width, height, birthRules, survivalRules);
+        tilesX = (width + TILE - 1) / TILE;
+        tilesY = (height + TILE - 1) / TILE;
+        changedLast = new boolean[tilesX * tilesY];
+        changedNow = new boolean[tilesX * tilesY];
+        active = new boolean[tilesX * tilesY];
+        // Nothing is known about the first generation, so every tile starts out active.
+        Arrays.fill(changedLast, true);
+    }
+
+    @Override
+    public void set(int x, int y, boolean alive) {
+        super.set(x, y, alive);
+        changedLast[(x / TILE) * tilesY + y / TILE] = true;
+    }
+
+    @Override
+    public void stepColumns(int from, int to) {
+        if (!activeKnown) {
+            for (int tx = 0; tx < tilesX; tx++) {
+                for (int ty = 0; ty < tilesY; ty++) {
+                    active[tx * tilesY + ty] = isActive(tx, ty);
+                }
+            }
+            activeKnown = true;
+        }
+        for (int x = from; x < to; x++) {
+            int tx = x / TILE;
+            int left = ((x + width - 1) % width) * height;
+            int centre = x * height;
+            int right = ((x + 1) % width) * height;
+            for (int ty = 0; ty < tilesY; ty++) {
+                if (!active[tx * tilesY + ty]) {
+                    continue;
+                }
+                boolean changed = false;
+                int end = Math.min(height, (ty + 1) * TILE);
+                for (int y = ty * TILE; y < end; y++) {
+                    if (stepCell(left, centre, right, y)) {
+                        changedInStep++;
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    changedNow[tx * tilesY + ty] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether a tile or any of its neighbouring tiles changed in the last generation.
+     */
+    private boolean isActive(int tx, int ty) {
+        for (int dx = -1; dx <= 1; dx++) {
+            int column = ((tx + dx + tilesX) % tilesX) * tilesY;
+            for (int dy = -1; dy <= 1; dy++) {
+                if (changedLast[column + (ty + dy + tilesY) % tilesY]) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void commitStep() {
+        super.commitStep();
+        boolean[] previous = changedLast;
+        changedLast = changedNow;
+        changedNow = previous;
+        Arrays.fill(changedNow, false);
+        activeKnown = false;
+    }
+
+    @Override
+    public void loadPacked(byte[] packed) {
+        super.loadPacked(packed);
+        Arrays.fill(changedLast, true);
+    }
+}
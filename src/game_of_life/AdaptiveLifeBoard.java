@@ -0,0 +1,295 @@
+package game_of_life;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * The AdaptiveLifeBoard class runs a board on whichever engine suits it best and moves it
+ * between engines while it runs. Every few hundred generations it samples the population,
+ * the share of cells that changed and, on the {@link MemoLifeBoard}, the cache hit rate:
+ *
+ * <ul>
+ * <li>boards that keep repeating the same change counts, like still lifes and short
+ *     oscillators, go to the {@link MemoLifeBoard};</li>
+ * <li>boards where few cells change go to the {@link ActiveTileLifeBoard};</li>
+ * <li>everything else runs on the bit-parallel {@link PackedLifeBoard}.</li>
+ * </ul>
+ *
+ * Switches only happen between generations and carry the cells over unchanged. Every switch
+ * is logged together with the measurements that caused it. The cells can also be released
+ * while the board is idle without losing the measurements or the chosen engine.
+ */
+public class AdaptiveLifeBoard implements LifeEngine {
+    /**
+     * The engines a board can run on.
+     */
+    public enum Backend {
+        PACKED, ACTIVE_TILE, MEMO;
+
+        /**
+         * Creates an empty engine of this kind.
+         *
+         * @param width         The number of columns.
+         * @param height        The number of rows.
+         * @param birthRules    The neighbour counts that bring a dead cell to life.
+         * @param survivalRules The neighbour counts that keep a live cell alive.
+         * @return The new engine.
+         */
+        LifeEngine create(int width, int height, Set<Integer> birthRules, Set<Integer> survivalRules) {
+            switch (this) {
+                case MEMO: return new MemoLifeBoard(width, height, birthRules, survivalRules);
+                case ACTIVE_TILE: return new ActiveTileLifeBoard(width, height, birthRules, survivalRules);
+                default: return new PackedLifeBoard(width, height, birthRules, survivalRules);
+            }
+        }
+    }
+
+    static final int SAMPLE_INTERVAL = 256;
+    static final double SPARSE_CHANGE_RATIO = 0.001;
+    static final double MEMO_HIT_RATIO = 0.5;
+    private static final int PERIOD_WINDOW = 2 * MemoLifeBoard.MAX_PERIOD;
+    private static final Logger LOGGER = Logger.getLogger(AdaptiveLifeBoard.class.getName());
+
+    private final int width;
+    private final int height;
+    private final Set<Integer> birthRules;
+    private final Set<Integer> survivalRules;
+    private final int sampleInterval;
+    private final int[] recentChanges = new int[PERIOD_WINDOW];
+    private Backend backend = Backend.PACKED;
+    private LifeEngine engine;
+    private long generation;
+    private int generationsSinceSample;
+    private long changesSinceSample;
+    private long hitsAtSample;
+    private long lookupsAtSample;
+    private int memoMisses;
+    private int memoBackoff;
+    private int samplesUntilMemo;
+    private int switchCount;
+
+    /**
+     * Constructs an empty AdaptiveLifeBoard that samples every {@link #SAMPLE_INTERVAL} generations.
+     *
+     * @param width         The number of columns.
+     * @param height        The number of rows.
+     * @param birthRules    The neighbour counts that bring a dead cell to life.
+     * @param survivalRules The neighbour counts that keep a live cell alive.
+     */
+    public AdaptiveLifeBoard(int width, int height, Set<Integer> birthRules, Set<Integer> survivalRules) {
+        this(width, height, birthRules, survivalRules, SAMPLE_INTERVAL);
+    }
+
+    /**
+     * Constructs an empty AdaptiveLifeBoard.
+     *
+     * @param width          The number of columns.
+     * @param height         The number of rows.
+     * @param birthRules     The neighbour counts that bring a dead cell to life.
+     * @param survivalRules  The neighbour counts that keep a live cell alive.
+     * @param sampleInterval The number of generations between engine decisions.
+     */
+    public AdaptiveLifeBoard(int width, int height, Set<Integer> birthRules, Set<Integer> survivalRules, int sampleInterval) {
+        this.width = width;
+        this.height = height;
+        this.birthRules = new HashSet<>(birthRules);
+        this.survivalRules = new HashSet<>(survivalRules);
+        this.sampleInterval = sampleInterval;
+        this.engine = backend.create(width, height, birthRules, survivalRules);
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public boolean get(int x, int y) {
+        return engine.get(x, y);
+    }
+
+    @Override
+    public void set(int x, int y, boolean alive) {
+        engine.set(x, y, alive);
+    }
+
+    @Override
+    public void stepColumns(int from, int to) {
+        engine.stepColumns(from, to);
+    }
+
+    @Override
+    public void commitStep() {
+        engine.commitStep();
+        int changed = engine.getChangedCells();
+        recentChanges[(int) (generation % PERIOD_WINDOW)] = changed;
+        changesSinceSample += changed;
+        generation++;
+        generationsSinceSample++;
+
+        // A cycle the memo engine can replay shows up within one window, so a memo engine
+        // that has not found one by then is abandoned without waiting for the full interval.
+        if (backend == Backend.MEMO) {
+            memoMisses = ((MemoLifeBoard) engine).isReplaying() ? 0 : memoMisses + 1;
+        }
+        if (generationsSinceSample >= sampleInterval || memoMisses > PERIOD_WINDOW) {
+            sample();
+        }
+    }
+
+    @Override
+    public int getChangedCells() {
+        return engine.getChangedCells();
+    }
+
+    @Override
+    public int getPopulation() {
+        return engine.getPopulation();
+    }
+
+    @Override
+    public boolean[][] toArray() {
+        return engine.toArray();
+    }
+
+    @Override
+    public byte[] toPacked() {
+        return engine.toPacked();
+    }
+
+    @Override
+    public void loadPacked(byte[] packed) {
+        engine.loadPacked(packed);
+    }
+
+    /**
+     * Returns the kind of engine currently running the board.
+     *
+     * @return The current backend.
+     */
+    public Backend getBackend() {
+        return backend;
+    }
+
+    /**
+     * Drops the engine and returns its cells, keeping the engine choice and the measurements.
+     * The board cannot be used again until {@link #restoreCells(byte[])} is called.
+     *
+     * @return The cells, packed as by {@link #toPacked()}.
+     */
+    byte[] releaseCells() {
+        byte[] packed = engine.toPacked();
+        engine = null;
+        return packed;
+    }
+
+    /**
+     * Recreates the engine released by {@link #releaseCells()} on the same backend.
+     *
+     * @param packed The cells, packed as by {@link #toPacked()}.
+     */
+    void restoreCells(byte[] packed) {
+        engine = backend.create(width, height, birthRules, survivalRules);
+        engine.loadPacked(packed);
+        hitsAtSample = 0;
+        lookupsAtSample = 0;
+    }
+
+    /**
+     * Returns how many times the board has been moved to another engine.
+     *
+     * @return The number of switches.
+     */
+    public int getSwitchCount() {
+        return switchCount;
+    }
+
+    /**
+     * Measures the generations since the last sample and moves the board to another engine
+     * if the measurements call for it.
+     */
+    private void sample() {
+        double cells = (double) width * height;
+        double density = engine.getPopulation() / cells;
+        double changeRatio = changesSinceSample / (cells * generationsSinceSample);
+        double hitRate = Double.NaN;
+        boolean onMemo = backend == Backend.MEMO;
+        if (onMemo) {
+            MemoLifeBoard memo = (MemoLifeBoard) engine;
+            long lookups = memo.getCacheLookups() - lookupsAtSample;
+            hitRate = lookups == 0 ? 0 : (double) (memo.getCacheHits() - hitsAtSample) / lookups;
+            hitsAtSample = memo.getCacheHits();
+            lookupsAtSample = memo.getCacheLookups();
+        }
+
+        Backend target;
+        if (onMemo && hitRate >= MEMO_HIT_RATIO) {
+            target = Backend.MEMO;
+        } else if (!onMemo && samplesUntilMemo == 0 && looksPeriodic()) {
+            target = Backend.MEMO;
+        } else {
+            if (onMemo) {
+                // The repetition was not a real cycle, so wait longer before trying again.
+                memoBackoff = Math.max(4, memoBackoff * 2);
+                samplesUntilMemo = memoBackoff;
+            } else if (samplesUntilMemo > 0) {
+                samplesUntilMemo--;
+            }
+            target = changeRatio < SPARSE_CHANGE_RATIO ? Backend.ACTIVE_TILE : Backend.PACKED;
+        }
+
+        if (target != backend) {
+            LOGGER.info(String.format("Board %dx%d switched from %s to %s at generation %d"
+                    + " (density %.3f, changed %.4f, cache hits %s)",
+                    width, height, backend, target, generation, density, changeRatio,
+                    Double.isNaN(hitRate) ? "n/a" : String.format("%.2f", hitRate)));
+            migrate(target);
+        }
+        generationsSinceSample = 0;
+        changesSinceSample = 0;
+        memoMisses = 0;
+    }
+
+    /**
+     * Returns whether the change counts of the recent generations repeat with a period short
+     * enough for the {@link MemoLifeBoard} to catch.
+     */
+    private boolean looksPeriodic() {
+        if (generation < PERIOD_WINDOW) {
+            return false;
+        }
+        for (int period = 1; period <= MemoLifeBoard.MAX_PERIOD; period++) {
+            boolean repeats = true;
+            for (int k = period; k < PERIOD_WINDOW && repeats; k++) {
+                // Slot (generation + k) holds the k-th oldest of the recent generations.
+                repeats = recentChanges[(int) ((generation + k) % PERIOD_WINDOW)]
+                        == recentChanges[(int) ((generation + k - period) % PERIOD_WINDOW)];
+            }
+            if (repeats) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves the cells to a new engine of the given kind.
+     *
+     * @param target The backend of the new engine.
+     */
+    private void migrate(Backend target) {
+        LifeEngine replacement = target.create(width, height, birthRules, survivalRules);
+        replacement.loadPacked(engine.toPacked());
+        engine = replacement;
+        backend = target;
+        hitsAtSample = 0;
+        lookupsAtSample = 0;
+        switchCount++;
+    }
+}
@@ -0,0 +1,473 @@
+package game_of_life;
+
+import org.junit.Test;
+import java.awt.event.ActionEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import static org.junit.Assert.*;
+
+/**
+ * Differential tests that run random boards, sizes and rules through the reference step in
+ * {@link LifePanel#actionPerformed(ActionEvent)} and through every other way of computing a
+ * generation, and report the first generation and cell where they disagree.
+ *
+ * <p>The number of trials and generations can be raised with the system properties
+ * {@code gol.fuzz.trials} and {@code gol.fuzz.generations}. Every failure names the seed
+ * of its trial so it can be replayed with {@code gol.fuzz.seed}.
+ */
+public class GOL_FuzzTests {
+
+    private static final int TRIALS = Integer.getInteger("gol.fuzz.trials", 40);
+    private static final int GENERATIONS = Integer.getInteger("gol.fuzz.generations", 60);
+    private static final long SEED = Long.getLong("gol.fuzz.seed", System.nanoTime());
+    // Engine switches are logged at INFO; keep a reference so the quieter level sticks.
+    private static final Logger ADAPTIVE_LOGGER = Logger.getLogger(AdaptiveLifeBoard.class.getName());
+    static {
+        ADAPTIVE_LOGGER.setLevel(Level.WARNING);
+    }
+    private static final int[][] EDGE_SIZES = {
+        {1, 1}, {1, 2}, {2, 1}, {1, 17}, {17, 1}, {2, 2}, {3, 3}, {63, 5}, {64, 5}, {65, 5}, {5, 63}, {5, 64}, {5, 65}, {129, 3}
+    };
+
+    /**
+     * One way of computing generations that is checked against the reference.
+     */
+    interface Engine {
+        /**
+         * Advances the board by one generation.
+         */
+        void step() throws InterruptedException;
+
+        /**
+         * Returns the current board indexed as [x][y].
+         */
+        boolean[][] snapshot();
+
+        /**
+         * Releases anything the engine holds on to.
+         */
+        default void close() {
+        }
+    }
+
+    /**
+     * Creates an engine loaded with a starting board and rules.
+     */
+    interface EngineFactory {
+        Engine create(boolean[][] start, Set<Integer> birthRules, Set<Integer> survivalRules, Random random);
+    }
+
+    /**
+     * Returns every engine that must agree with the reference step, keyed by name.
+     */
+    static Map<String, EngineFactory> engines() {
+        Map<String, EngineFactory> engines = new LinkedHashMap<>();
+        engines.put("LifeBoard", (start, birth, survival, random) ->
+                load(new LifeBoard(start.length, start[0].length, birth, survival), start));
+        engines.put("LifeBoard in column slices", (start, birth, survival, random) ->
+                inSlices(new LifeBoard(start.length, start[0].length, birth, survival), start, random));
+        engines.put("AdaptiveLifeBoard in column slices", (start, birth, survival, random) ->
+                inSlices(new AdaptiveLifeBoard(start.length, start[0].length, birth, survival, 1 + random.nextInt(8)), start, random));
+        engines.put("PackedLifeBoard", (start, birth, survival, random) ->
+                load(new PackedLifeBoard(start.length, start[0].length, birth, survival), start));
+        engines.put("ActiveTileLifeBoard", (start, birth, survival, random) ->
+                load(new ActiveTileLifeBoard(start.length, start[0].length, birth, survival), start));
+        engines.put("MemoLifeBoard", (start, birth, survival, random) ->
+                load(new MemoLifeBoard(start.length, start[0].length, birth, survival), start));
+        engines.put("AdaptiveLifeBoard", (start, birth, survival, random) ->
+                // Sampling every few generations forces many engine switches mid-run.
+                load(new AdaptiveLifeBoard(start.length, start[0].length, birth, survival, 1 + random.nextInt(8)), start));
+        engines.put("LifePanel with activity tracking", (start, birth, survival, random) -> {
+            LifePanel panel = panel(start, birth, survival);
+            panel.setColorMode(random.nextBoolean() ? LifePanel.ColorMode.AGE : LifePanel.ColorMode.HEAT);
+            return engine(() -> stepPanel(panel), () -> copy(panel.life));
+        });
+        engines.put("SimulationService", (start, birth, survival, random) -> {
+            // A tiny idle time makes boards get parked and restored between generations.
+            SimulationService service = new SimulationService(2, 1 + random.nextInt(3));
+            int id = service.createBoard(start.length, start[0].length, birth, survival, 100);
+            for (int x = 0; x < start.length; x++) {
+                for (int y = 0; y < start[0].length; y++) {
+                    if (start[x][y]) service.setCell(id, x, y, true);
+                }
+            }
+            return new Engine() {
+                long generation;
+
+                @Override
+                public void step() throws InterruptedException {
+                    service.step(id, 1);
+                    service.awaitGeneration(id, ++generation);
+                }
+
+                @Override
+                public boolean[][] snapshot() {
+                    return service.getBoard(id);
+                }
+
+                @Override
+                public void close() {
+                    service.shutdown();
+                }
+            };
+        });
+        return engines;
+    }
+
+    @Test
+    public void testEnginesMatchReferenceOnRandomBoards() throws InterruptedException {
+        for (Map.Entry<String, EngineFactory> engine : engines().entrySet()) {
+            for (int trial = 0; trial < TRIALS; trial++) {
+                long seed = SEED + trial;
+                Random random = new Random(seed);
+                int[] size = randomSize(random);
+                Set<Integer> birth = randomRule(random);
+                Set<Integer> survival = randomRule(random);
+                boolean[][] start = randomBoard(random, size[0], size[1]);
+
+                String divergence = compare(engine.getKey(), engine.getValue(), start, birth, survival, GENERATIONS, random);
+                if (divergence != null) {
+                    fail(divergence + " (seed " + seed + ", size " + size[0] + "x" + size[1]
+                            + ", rules B" + rulesToString(birth) + "/S" + rulesToString(survival) + ")");
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEnginesMatchReferenceOnEdgeSizes() throws InterruptedException {
+        Random random = new Random(SEED);
+        for (Map.Entry<String, EngineFactory> engine : engines().entrySet()) {
+            for (int[] size : EDGE_SIZES) {
+                Set<Integer> birth = randomRule(random);
+                Set<Integer> survival = randomRule(random);
+                boolean[][] start = randomBoard(random, size[0], size[1]);
+
+                String divergence = compare(engine.getKey(), engine.getValue(), start, birth, survival, 20, random);
+                if (divergence != null) {
+                    fail(divergence + " (seed " + SEED + ", size " + size[0] + "x" + size[1]
+                            + ", rules B" + rulesToString(birth) + "/S" + rulesToString(survival) + ")");
+                }
+            }
+        }
+    }
+
+    @Test(timeout = 120000)
+    public void testSimulationServiceSurvivesConcurrentEdits() throws InterruptedException {
+        Random random = new Random(SEED);
+        Set<Integer> birth = new HashSet<>();
+        birth.add(3);
+        Set<Integer> survival = new HashSet<>();
+        survival.add(2);
+        survival.add(3);
+
+        List<RecordingBoard> recorded = new CopyOnWriteArrayList<>();
+        SimulationService service = new SimulationService(4, 5, (width, height, b, s) -> {
+            RecordingBoard board = new RecordingBoard(width, height, b, s);
+            recorded.add(board);
+            return board;
+        });
+        Map<Integer, Map<Long, List<int[]>>> edits = new ConcurrentHashMap<>();
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        try {
+            int[] ids = new int[8];
+            int[][] sizes = new int[ids.length][];
+            for (int i = 0; i < ids.length; i++) {
+                // Mix tall boards that are stepped in several slices with tiny ones.
+                int width = i == 0 ? 300 : 1 + random.nextInt(40);
+                int height = i == 0 ? SimulationService.CELLS_PER_SLICE / 100 : 1 + random.nextInt(40);
+                sizes[i] = new int[] {width, height};
+                ids[i] = service.createBoard(width, height, birth, survival, 1);
+                edits.put(ids[i], new HashMap<>());
+                // Start from a random soup, so that edits land among live cells and are not
+                // simply erased by the next generation.
+                for (int x = 0; x < width; x++) {
+                    for (int y = 0; y < height; y++) {
+                        if (random.nextInt(3) == 0) {
+                            long generation = service.setCell(ids[i], x, y, true);
+                            edits.get(ids[i]).computeIfAbsent(generation, g -> new ArrayList<>()).add(new int[] {x, y, 1});
+                        }
+                    }
+                }
+                service.startBoard(ids[i]);
+            }
+
+            int editors = 4;
+            CountDownLatch done = new CountDownLatch(editors);
+            for (int t = 0; t < editors; t++) {
+                long threadSeed = random.nextLong();
+                new Thread(() -> {
+                    Random threadRandom = new Random(threadSeed);
+                    try {
+                        for (int n = 0; n < 2000; n++) {
+                            int board = threadRandom.nextInt(ids.length);
+                            int id = ids[board];
+                            int x = threadRandom.nextInt(sizes[board][0]);
+                            int y = threadRandom.nextInt(sizes[board][1]);
+                            boolean alive = threadRandom.nextBoolean();
+                            service.getBoard(id);
+                            // Edits to one board are recorded in the order the service applies them.
+                            Map<Long, List<int[]>> boardEdits = edits.get(id);
+                            synchronized (boardEdits) {
+                                long generation = service.setCell(id, x, y, alive);
+                                boardEdits.computeIfAbsent(generation, g -> new ArrayList<>()).add(new int[] {x, y, alive ? 1 : 0});
+                            }
+                            if (threadRandom.nextInt(50) == 0) {
+                                service.step(id, 1 + threadRandom.nextInt(3));
+                            }
+                        }
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    } finally {
+                        done.countDown();
+                    }
+                }).start();
+            }
+            done.await();
+
+            for (int id : ids) {
+                service.stopBoard(id);
+            }
+            for (int i = 0; i < ids.length; i++) {
+                int id = ids[i];
+                service.awaitIdle(id);
+                long last = service.getGeneration(id);
+
+                // Replay the recorded edits into the reference and check every generation reached.
+                LifePanel reference = panel(new boolean[sizes[i][0]][sizes[i][1]], birth, survival);
+                for (long generation = 0; generation < last; generation++) {
+                    applyEdits(reference, edits.get(id).get(generation));
+                    stepPanel(reference);
+                    byte[] computed = recorded.get(i).generations.get(generation + 1);
+                    assertNotNull("Board " + id + " never reported generation " + (generation + 1), computed);
+                    String divergence = firstDifference(reference.life, unpack(computed, sizes[i][0], sizes[i][1]));
+                    assertNull("Board " + id + " diverged at generation " + (generation + 1) + " during concurrent edits: "
+                            + divergence + " (seed " + SEED + ")", divergence);
+                }
+                applyEdits(reference, edits.get(id).get(last));
+                String divergence = firstDifference(reference.life, service.getBoard(id));
+                assertNull("Board " + id + " after the last edits: " + divergence + " (seed " + SEED + ")", divergence);
+            }
+        } finally {
+            service.shutdown();
+        }
+        if (!errors.isEmpty()) {
+            throw new AssertionError("Concurrent edit failed (seed " + SEED + ")", errors.peek());
+        }
+    }
+
+    /**
+     * An adaptive board that keeps a packed copy of every generation it computes. The service
+     * applies edits made during a generation after committing it, so the copies hold each
+     * generation exactly as computed.
+     */
+    private static final class RecordingBoard extends AdaptiveLifeBoard {
+        private final Map<Long, byte[]> generations = new ConcurrentHashMap<>();
+        private long generation;
+
+        RecordingBoard(int width, int height, Set<Integer> birthRules, Set<Integer> survivalRules) {
+            super(width, height, birthRules, survivalRules);
+        }
+
+        @Override
+        public void commitStep() {
+            super.commitStep();
+            generations.put(++generation, toPacked());
+        }
+    }
+
+    /**
+     * Applies recorded edits to a reference LifePanel, in the order they were made.
+     */
+    private static void applyEdits(LifePanel panel, List<int[]> edits) {
+        if (edits != null) {
+            for (int[] edit : edits) {
+                panel.life[edit[0]][edit[1]] = edit[2] == 1;
+                panel.beforeLife[edit[0]][edit[1]] = edit[2] == 1;
+            }
+        }
+    }
+
+    private static boolean[][] unpack(byte[] packed, int width, int height) {
+        boolean[][] board = new boolean[width][height];
+        for (int i = 0; i < width * height; i++) {
+            board[i / height][i % height] = (packed[i >>> 3] & (1 << (i & 7))) != 0;
+        }
+        return board;
+    }
+
+    /**
+     * Runs an engine next to the reference step and describes the first divergence.
+     *
+     * @return null if the engine matched the reference for every generation.
+     */
+    private static String compare(String name, EngineFactory factory, boolean[][] start, Set<Integer> birth, Set<Integer> survival,
+                                  int generations, Random random) throws InterruptedException {
+        LifePanel reference = panel(start, birth, survival);
+        Engine engine = factory.create(copy(start), birth, survival, random);
+        try {
+            for (int generation = 1; generation <= generations; generation++) {
+                stepPanel(reference);
+                engine.step();
+                String difference = firstDifference(reference.life, engine.snapshot());
+                if (difference != null) {
+                    return name + " diverged at generation " + generation + ", " + difference;
+                }
+            }
+            return null;
+        } finally {
+            engine.close();
+        }
+    }
+
+    /**
+     * Describes the first cell where two boards differ.
+     *
+     * @return null if the boards are equal.
+     */
+    private static String firstDifference(boolean[][] expected, boolean[][] actual) {
+        if (expected.length != actual.length || expected[0].length != actual[0].length) {
+            return "size " + actual.length + "x" + actual[0].length + " instead of " + expected.length + "x" + expected[0].length;
+        }
+        for (int x = 0; x < expected.length; x++) {
+            for (int y = 0; y < expected[0].length; y++) {
+                if (expected[x][y] != actual[x][y]) {
+                    return "cell (" + x + "," + y + ") is " + (actual[x][y] ? "alive" : "dead")
+                            + " but should be " + (expected[x][y] ? "alive" : "dead");
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Builds a LifePanel holding the given board, to be stepped with the reference rules.
+     */
+    private static LifePanel panel(boolean[][] start, Set<Integer> birth, Set<Integer> survival) {
+        LifePanel panel = new LifePanel();
+        panel.xWidth = start.length;
+        panel.yHeight = start[0].length;
+        panel.life = copy(start);
+        panel.beforeLife = copy(start);
+        panel.age = new byte[panel.xWidth][panel.yHeight];
+        panel.heat = new byte[panel.xWidth][panel.yHeight];
+        panel.birthRules = new HashSet<>(birth);
+        panel.survivalRules = new HashSet<>(survival);
+        return panel;
+    }
+
+    /**
+     * Advances a LifePanel by one generation the same way the game timer does.
+     */
+    private static void stepPanel(LifePanel panel) {
+        panel.actionPerformed(new ActionEvent(panel, ActionEvent.ACTION_PERFORMED, "step"));
+        panel.copyArray();
+    }
+
+    /**
+     * Loads a starting board into an engine and wraps it for comparison.
+     */
+    private static Engine load(LifeEngine board, boolean[][] start) {
+        for (int x = 0; x < start.length; x++) {
+            for (int y = 0; y < start[0].length; y++) {
+                board.set(x, y, start[x][y]);
+            }
+        }
+        return engine(board::step, board::toArray);
+    }
+
+    /**
+     * Loads a starting board into an engine that is stepped in column slices with random
+     * boundaries, the way the simulation service steps it.
+     */
+    private static Engine inSlices(LifeEngine board, boolean[][] start, Random random) {
+        load(board, start);
+        return engine(() -> {
+            int from = 0;
+            while (from < board.getWidth()) {
+                int to = Math.min(board.getWidth(), from + 1 + random.nextInt(board.getWidth()));
+                board.stepColumns(from, to);
+                from = to;
+            }
+            board.commitStep();
+        }, board::toArray);
+    }
+
+    private static int[] randomSize(Random random) {
+        if (random.nextInt(4) == 0) {
+            return EDGE_SIZES[random.nextInt(EDGE_SIZES.length)];
+        }
+        return new int[] {1 + random.nextInt(150), 1 + random.nextInt(150)};
+    }
+
+    /**
+     * Picks a random rule, favouring the classic B3/S23 counts so boards do not die out at once.
+     */
+    private static Set<Integer> randomRule(Random random) {
+        Set<Integer> rule = new HashSet<>();
+        for (int count = 0; count <= 8; count++) {
+            if (random.nextInt(count == 2 || count == 3 ? 2 : 5) == 0) {
+                rule.add(count);
+            }
+        }
+        return rule;
+    }
+
+    private static boolean[][] randomBoard(Random random, int width, int height) {
+        double density = random.nextDouble();
+        boolean[][] board = new boolean[width][height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                board[x][y] = random.nextDouble() < density;
+            }
+        }
+        return board;
+    }
+
+    private static boolean[][] copy(boolean[][] board) {
+        boolean[][] copy = new boolean[board.length][];
+        for (int x = 0; x < board.length; x++) {
+            copy[x] = board[x].clone();
+        }
+        return copy;
+    }
+
+    private static String rulesToString(Set<Integer> rules) {
+        StringBuilder sb = new StringBuilder();
+        for (Integer rule : rules) {
+            sb.append(rule);
+        }
+        return sb.toString();
+    }
+
+    private static Engine engine(Step step, Supplier<boolean[][]> snapshot) {
+        return new Engine() {
+            @Override
+            public void step() throws InterruptedException {
+                step.run();
+            }
+
+            @Override
+            public boolean[][] snapshot() {
+                return snapshot.get();
+            }
+        };
+    }
+
+    private interface Step {
+        void run() throws InterruptedException;
+    }
+}
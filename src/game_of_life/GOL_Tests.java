@@ -3,6 +3,17 @@ package game_of_life;
 import org.junit.Before;
 import org.junit.Test;
 import java.awt.event.ActionEvent;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import static org.junit.Assert.*;
 
 public class GOL_Tests {
@@ -110,5 +121,294 @@ public class GOL_Tests {
         String expectedStatus = "Status: Game running. || Current rules: B3/S23 || Time between generations: 500 ms";
         assertEquals(expectedStatus, statusText);
     }
+    
+    @Test(timeout = 10000)
+    public void testSpectatorReceivesKeyframeAndDeltas() throws IOException {
+        SpectatorServer server = new SpectatorServer(0);
+        try (SpectatorClient client = new SpectatorClient("localhost", server.getPort())) {
+            boolean[][] board = new boolean[5][3];
+            board[1][1] = true;
+            server.publish(board);
+            board[1][1] = false;
+            board[4][2] = true;
+            server.publish(board);
+
+            boolean[][] received;
+            do {
+                received = client.readFrame();
+            } while (client.getGeneration() < 2);
+
+            assertFalse(received[1][1]);
+            assertTrue(received[4][2]);
+        } finally {
+            server.close();
+        }
+    }
+    
+    @Test(timeout = 10000)
+    public void testSpectatorSeesEditsToPausedBoard() throws IOException {
+        LifePanel panel = new LifePanel();
+        panel.beforeLife[1][1] = true;
+        SpectatorServer server = new SpectatorServer(0);
+        try (SpectatorClient early = new SpectatorClient("localhost", server.getPort())) {
+            // The board is published as soon as the server is attached, before any generation.
+            panel.setSpectatorServer(server);
+            assertTrue(Arrays.deepEquals(panel.beforeLife, early.readFrame()));
+
+            MouseEvent click = new MouseEvent(panel, MouseEvent.MOUSE_PRESSED, 0, 0, 2 * panel.size, 3 * panel.size, 1, false);
+            for (MouseListener listener : panel.getMouseListeners()) {
+                listener.mousePressed(click);
+            }
+            assertTrue(panel.beforeLife[2][3]);
+            assertTrue(Arrays.deepEquals(panel.beforeLife, early.readFrame()));
+
+            try (SpectatorClient late = new SpectatorClient("localhost", server.getPort())) {
+                assertTrue(Arrays.deepEquals(panel.beforeLife, late.readFrame()));
+            }
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testSpectatorDropsFramesForSlowViewers() throws Exception {
+        int generations = 2000;
+        Map<Integer, boolean[][]> published = new ConcurrentHashMap<>();
+        SpectatorServer server = new SpectatorServer(0);
+        // This viewer connects but never reads, so its socket buffers fill up.
+        Socket stalled = new Socket();
+        stalled.setReceiveBufferSize(1024);
+        stalled.connect(new InetSocketAddress("localhost", server.getPort()));
+        try (SpectatorClient client = new SpectatorClient("localhost", server.getPort())) {
+            while (server.getSpectatorCount() < 2) {
+                Thread.sleep(5);
+            }
+
+            AtomicReference<String> mismatch = new AtomicReference<>();
+            Thread reader = new Thread(() -> {
+                try {
+                    do {
+                        boolean[][] received = client.readFrame();
+                        boolean[][] expected = published.get(client.getGeneration());
+                        if (!Arrays.deepEquals(expected, received)) {
+                            mismatch.set("Frame for generation " + client.getGeneration() + " does not match the published board");
+                            return;
+                        }
+                    } while (client.getGeneration() < generations);
+                } catch (IOException e) {
+                    mismatch.set("Fast viewer failed: " + e);
+                }
+            });
+            reader.start();
+
+            Random random = new Random(42);
+            boolean[][] board = new boolean[256][256];
+            for (int generation = 1; generation <= generations; generation++) {
+                for (int n = 0; n < 500; n++) {
+                    board[random.nextInt(256)][random.nextInt(256)] ^= true;
+                }
+                boolean[][] snapshot = new boolean[256][];
+                for (int x = 0; x < 256; x++) {
+                    snapshot[x] = board[x].clone();
+                }
+                published.put(generation, snapshot);
+                // A publish that waited on the stalled viewer would never return and hit the timeout.
+                server.publish(board);
+            }
+
+            reader.join();
+            assertNull(mismatch.get());
+            assertTrue("The stalled viewer should have had frames dropped", server.getDroppedFrames() > 0);
+        } finally {
+            stalled.close();
+            server.close();
+        }
+    }
+
+    @Test
+    public void testSimulationServiceStepsBoardsIndependently() throws InterruptedException {
+        SimulationService service = new SimulationService(2, 60000);
+        try {
+            int blinker = service.createBoard(5, 5, new HashSet<>(Arrays.asList(3)), new HashSet<>(Arrays.asList(2, 3)), 100);
+            int seeds = service.createBoard(6, 4, new HashSet<>(Arrays.asList(2)), new HashSet<Integer>(), 100);
+            service.setCell(blinker, 1, 2, true);
+            service.setCell(blinker, 2, 2, true);
+            service.setCell(blinker, 3, 2, true);
+            service.setCell(seeds, 0, 0, true);
+            service.setCell(seeds, 1, 0, true);
+
+            service.step(blinker, 1);
+            service.step(seeds, 1);
+            service.awaitGeneration(blinker, 1);
+            service.awaitGeneration(seeds, 1);
+
+            boolean[][] board = service.getBoard(blinker);
+            assertTrue(board[2][1] && board[2][2] && board[2][3]);
+            assertFalse(board[1][2]);
+            assertEquals(4, service.getPopulation(seeds));
+
+            service.deleteBoard(seeds);
+            assertEquals(1, service.getBoardCount());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testSimulationServiceParksIdleBoards() throws InterruptedException {
+        SimulationService service = new SimulationService(1, 10);
+        try {
+            int id = service.createBoard(70, 3, new HashSet<>(Arrays.asList(3)), new HashSet<>(Arrays.asList(2, 3)), 100);
+            service.setCell(id, 69, 1, true);
+            service.setCell(id, 0, 2, true);
+            while (!service.isParked(id)) {
+                Thread.sleep(5);
+            }
+
+            boolean[][] board = service.getBoard(id);
+            assertFalse(service.isParked(id));
+            assertTrue(board[69][1] && board[0][2]);
+            assertEquals(2, service.getPopulation(id));
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    public void testSimulationServiceRejectsInvalidInput() {
+        SimulationService service = new SimulationService(1, 60000);
+        try {
+            int id = service.createBoard(4, 4, new HashSet<>(Arrays.asList(3)), new HashSet<>(Arrays.asList(2, 3)), 100);
+            try {
+                service.step(id, -1);
+                fail("Negative generation count should be rejected");
+            } catch (IllegalArgumentException expected) {
+            }
+            try {
+                service.createBoard(4, 4, new HashSet<>(Arrays.asList(3)), new HashSet<>(Arrays.asList(2, 3)), 0);
+                fail("Non-positive delay should be rejected");
+            } catch (IllegalArgumentException expected) {
+            }
+            assertEquals(1, service.getBoardCount());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testSimulationServiceStopsSteppingAfterStopBoard() throws InterruptedException {
+        SimulationService service = new SimulationService(2, 60000);
+        try {
+            int id = service.createBoard(256, 256, new HashSet<>(Arrays.asList(3)), new HashSet<>(Arrays.asList(2, 3)), 1);
+            // Copying the board holds its lock, so timer ticks are often already waiting for the
+            // lock when the board is stopped.
+            Thread reader = new Thread(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    service.getBoard(id);
+                }
+            });
+            reader.start();
+            try {
+                for (int round = 0; round < 100; round++) {
+                    service.startBoard(id);
+                    service.awaitGeneration(id, service.getGeneration(id) + 2);
+                    service.stopBoard(id);
+                    service.awaitIdle(id);
+                    long stopped = service.getGeneration(id);
+                    Thread.sleep(5);
+                    assertEquals("Board kept stepping after stopBoard in round " + round, stopped, service.getGeneration(id));
+                }
+            } finally {
+                reader.interrupt();
+                reader.join();
+            }
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    public void testMouseEditsResetActivity() {
+        LifePanel panel = new LifePanel();
+        panel.setColorMode(LifePanel.ColorMode.AGE);
+        panel.beforeLife[2][3] = true;
+        panel.age[2][3] = 50;
+
+        MouseEvent click = new MouseEvent(panel, MouseEvent.MOUSE_PRESSED, 0, 0, 2 * panel.size, 3 * panel.size, 1, false);
+        for (MouseListener listener : panel.getMouseListeners()) {
+            listener.mousePressed(click);
+            listener.mouseReleased(click);
+            listener.mousePressed(click);
+        }
+
+        // Killing the cell and clicking it back to life makes it a newborn, not a 50-generation-old cell.
+        assertTrue(panel.beforeLife[2][3]);
+        assertEquals(0, panel.age[2][3]);
+        assertEquals(2 * 64, panel.heat[2][3] & 0xFF);
+    }
+
+    @Test
+    public void testActivityTrackingDuringStep() {
+        lifePanel.setColorMode(LifePanel.ColorMode.HEAT);
+        lifePanel.life[1][2] = true;
+        lifePanel.life[2][2] = true;
+        lifePanel.life[3][2] = true;
+
+        lifePanel.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "command"));
+
+        assertEquals(1, lifePanel.age[2][2]);
+        assertEquals(1, lifePanel.age[2][1]);
+        assertEquals(0, lifePanel.age[1][2]);
+        assertTrue(lifePanel.heat[1][2] > 0);
+        assertTrue(lifePanel.heat[2][1] > 0);
+        assertEquals(0, lifePanel.heat[2][2]);
+
+        lifePanel.copyArray();
+        lifePanel.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "command"));
+
+        assertEquals(2, lifePanel.age[2][2]);
+        assertEquals(0, lifePanel.age[2][1]);
+        assertEquals(1, lifePanel.age[1][2]);
+    }
+
+    @Test
+    public void testAdaptiveBoardMovesStillLifeToMemoEngine() {
+        AdaptiveLifeBoard board = new AdaptiveLifeBoard(32, 32, new HashSet<>(Arrays.asList(3)), new HashSet<>(Arrays.asList(2, 3)), 40);
+        board.set(4, 4, true);
+        board.set(4, 5, true);
+        board.set(5, 4, true);
+        board.set(5, 5, true);
+        assertEquals(AdaptiveLifeBoard.Backend.PACKED, board.getBackend());
+
+        for (int i = 0; i < 40; i++) {
+            board.step();
+        }
+
+        assertEquals(AdaptiveLifeBoard.Backend.MEMO, board.getBackend());
+        assertEquals(1, board.getSwitchCount());
+        assertEquals(4, board.getPopulation());
+        assertTrue(board.get(4, 4) && board.get(5, 5));
+    }
+
+    @Test
+    public void testAdaptiveBoardKeepsEngineWhenCellsAreReleased() {
+        AdaptiveLifeBoard board = new AdaptiveLifeBoard(32, 32, new HashSet<>(Arrays.asList(3)), new HashSet<>(Arrays.asList(2, 3)), 40);
+        board.set(10, 9, true);
+        board.set(10, 10, true);
+        board.set(10, 11, true);
+        for (int i = 0; i < 40; i++) {
+            board.step();
+        }
+        assertEquals(AdaptiveLifeBoard.Backend.MEMO, board.getBackend());
+
+        board.restoreCells(board.releaseCells());
+
+        assertEquals(AdaptiveLifeBoard.Backend.MEMO, board.getBackend());
+        assertEquals(1, board.getSwitchCount());
+        assertTrue(board.get(10, 9) && board.get(10, 10) && board.get(10, 11));
+        board.step();
+        assertTrue(board.get(9, 10) && board.get(10, 10) && board.get(11, 10));
+        assertEquals(3, board.getPopulation());
+    }
 
 }
\ No newline at end of file
@@ -64,8 +64,13 @@ public class GameFunctions {
             for (int j = 0; j < lifePanel.yHeight; j++) {
                 lifePanel.life[i][j] = false;
                 lifePanel.beforeLife[i][j] = false;
+                if (lifePanel.colorMode != LifePanel.ColorMode.ALIVE) {
+                    lifePanel.age[i][j] = 0;
+                    lifePanel.heat[i][j] = 0;
+                }
             }
         }
+        lifePanel.publishBoard();
         lifePanel.repaint();
     }
 
@@ -76,9 +81,14 @@ public class GameFunctions {
         for (int i = 0; i < lifePanel.xWidth; i++) {
             for (int j = 0; j < lifePanel.yHeight; j++) {
                 lifePanel.beforeLife[i][j] = (Math.random() < 0.2);
+                if (lifePanel.colorMode != LifePanel.ColorMode.ALIVE) {
+                    lifePanel.age[i][j] = 0;
+                    lifePanel.heat[i][j] = 0;
+                }
             }
         }
         lifePanel.copyArray();
+        lifePanel.publishBoard();
         lifePanel.repaint();
     }
     
@@ -115,7 +125,12 @@ public class GameFunctions {
                 boolean[][] loadedLife = (boolean[][]) ois.readObject();
                 if (loadedLife.length == lifePanel.beforeLife.length && loadedLife[0].length == lifePanel.beforeLife[0].length) {
                 	lifePanel.beforeLife = loadedLife;
+                	if (lifePanel.colorMode != LifePanel.ColorMode.ALIVE) {
+                		lifePanel.age = new byte[lifePanel.xWidth][lifePanel.yHeight];
+                		lifePanel.heat = new byte[lifePanel.xWidth][lifePanel.yHeight];
+                	}
                 	lifePanel.copyArray();
+                	lifePanel.publishBoard();
                 	lifePanel.repaint();
                 } else {
                 	boolean sizeMatched = false;
@@ -127,6 +142,7 @@ public class GameFunctions {
                     				lifePanel.resizeGrid(predefinedSize);
                     				lifePanel.beforeLife = loadedLife;
                     				lifePanel.copyArray();
+                    				lifePanel.publishBoard();
                     				lifePanel.repaint();
                     				break;
                     			}
@@ -142,6 +158,38 @@ public class GameFunctions {
         }
     }
     
+    /**
+     * Starts the spectator server on a user-chosen port so remote viewers can watch the game.
+     */
+    public void startSpectatorServer() {
+        if (lifePanel.spectatorServer != null) {
+            JOptionPane.showMessageDialog(null, "The spectator server is already running on port " + lifePanel.spectatorServer.getPort() + ".", "Spectators", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        String port = JOptionPane.showInputDialog(null, "Enter port for spectators:", "4567");
+        if (port != null) {
+            try {
+                lifePanel.setSpectatorServer(new SpectatorServer(Integer.parseInt(port)));
+                updateStatusLine();
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(null, "Invalid input. Please enter a number.", "Error", JOptionPane.ERROR_MESSAGE);
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(null, "Could not start the spectator server: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    /**
+     * Stops the spectator server and disconnects all viewers.
+     */
+    public void stopSpectatorServer() {
+        if (lifePanel.spectatorServer != null) {
+            lifePanel.spectatorServer.close();
+            lifePanel.setSpectatorServer(null);
+        }
+        updateStatusLine();
+    }
+    
     /**
      * Sets the time between each generation in the game.
      */
@@ -195,9 +243,27 @@ public class GameFunctions {
         lifePanel.yHeight = lifePanel.yPanel / lifePanel.size;
         lifePanel.life = new boolean[lifePanel.xWidth][lifePanel.yHeight];
         lifePanel.beforeLife = new boolean[lifePanel.xWidth][lifePanel.yHeight];
+        lifePanel.age = new byte[lifePanel.xWidth][lifePanel.yHeight];
+        lifePanel.heat = new byte[lifePanel.xWidth][lifePanel.yHeight];
+        lifePanel.publishBoard();
         lifePanel.repaint();
     }
 	
+    /**
+     * Allows the user to choose whether cells are colored by state, age or activity.
+     */
+    public void setColorMode() {
+        Object[] options = {"Alive", "Age", "Heat"};
+        int response = JOptionPane.showOptionDialog(null, "Color cells by:", "Set Color Mode", JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
+
+        switch (response) {
+            case 0: lifePanel.setColorMode(LifePanel.ColorMode.ALIVE); break;
+            case 1: lifePanel.setColorMode(LifePanel.ColorMode.AGE); break;
+            case 2: lifePanel.setColorMode(LifePanel.ColorMode.HEAT); break;
+            default: return;
+        }
+    }
+	
     /**
      * Sets the birth and survival rules for the game.
      */
@@ -261,13 +327,14 @@ public class GameFunctions {
      * Updates the status line.
      */
     public void updateStatusLine() {
+        String spectators = lifePanel.spectatorServer == null ? "" : " || Spectators on port " + lifePanel.spectatorServer.getPort();
         if(lifePanel.gameRunning)
             lifeFrame.updateStatus("Game running. || Current rules: "
             						+ "B" + lifePanel.getBirthRulesAsString() + "/S" + lifePanel.getSurvivalRulesAsString() +
-            						" || Time between generations: " + lifePanel.gameTimer.getDelay() + " ms");
+            						" || Time between generations: " + lifePanel.gameTimer.getDelay() + " ms" + spectators);
         if(!lifePanel.gameRunning)
             lifeFrame.updateStatus("Game is not running. || Current rules: "
             						+ "B" + lifePanel.getBirthRulesAsString() + "/S" + lifePanel.getSurvivalRulesAsString() +
-            						" || Time between generations: " + lifePanel.gameTimer.getDelay() + " ms");
+            						" || Time between generations: " + lifePanel.gameTimer.getDelay() + " ms" + spectators);
     }
 }
\ No newline at end of file
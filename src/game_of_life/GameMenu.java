@@ -24,6 +24,7 @@ public class GameMenu extends JMenuBar {
         JMenu gameMenu1 = new JMenu("Start/Stop");
         JMenu gameMenu2 = new JMenu("Game Settings");
         JMenu gameMenu3 = new JMenu("Save/Load");
+        JMenu gameMenu4 = new JMenu("Spectators");
         
         // Create and add menu items for game control
         JMenuItem startMenuItem = new JMenuItem("Start");
@@ -42,6 +43,8 @@ public class GameMenu extends JMenuBar {
         setGridSizeMenuItem.addActionListener(e -> gameFunctions.setGridSize());
         JMenuItem setRulesMenuItem = new JMenuItem("Set Rules");
         setRulesMenuItem.addActionListener(e -> gameFunctions.setRules());
+        JMenuItem setColorModeMenuItem = new JMenuItem("Set Color Mode");
+        setColorModeMenuItem.addActionListener(e -> gameFunctions.setColorMode());
         
         // Create and add menu items for saving and loading the game state
         JMenuItem saveMenuItem = new JMenuItem("Save");
@@ -49,6 +52,11 @@ public class GameMenu extends JMenuBar {
         JMenuItem loadMenuItem = new JMenuItem("Load");
         loadMenuItem.addActionListener(e -> gameFunctions.loadGridFromFile());
         
+        // Create and add menu items for streaming the board to remote viewers
+        JMenuItem startServerMenuItem = new JMenuItem("Start Server");
+        startServerMenuItem.addActionListener(e -> gameFunctions.startSpectatorServer());
+        JMenuItem stopServerMenuItem = new JMenuItem("Stop Server");
+        stopServerMenuItem.addActionListener(e -> gameFunctions.stopSpectatorServer());
 
         // Add menus to the menu bar
         gameMenu1.add(startMenuItem);
@@ -59,12 +67,17 @@ public class GameMenu extends JMenuBar {
         gameMenu2.add(setDelayMenuItem);
         gameMenu2.add(setGridSizeMenuItem);
         gameMenu2.add(setRulesMenuItem);
+        gameMenu2.add(setColorModeMenuItem);
         
         gameMenu3.add(saveMenuItem);
         gameMenu3.add(loadMenuItem);
         
+        gameMenu4.add(startServerMenuItem);
+        gameMenu4.add(stopServerMenuItem);
+        
         add(gameMenu1);
         add(gameMenu2);
         add(gameMenu3);
+        add(gameMenu4);
     }
 }
\ No newline at end of file
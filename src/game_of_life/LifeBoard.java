@@ -0,0 +1,201 @@
+package game_of_life;
+
+import java.util.Set;
+
+/**
+ * The LifeBoard class is a headless toroidal board with its own birth and survival rules.
+ * It follows the same neighbour and rule semantics as {@link LifePanel}, but keeps the cells in
+ * flat arrays indexed as {@code x * height + y} and can compute a generation in column ranges,
+ * so that a large board can be stepped in several bounded slices.
+ *
+ * <p>This is the plain brute-force engine that visits every cell in every generation.
+ */
+public class LifeBoard implements LifeEngine {
+    protected final int width;
+    protected final int height;
+    private final boolean[] birth = new boolean[9];
+    private final boolean[] survival = new boolean[9];
+    protected boolean[] cells;
+    protected boolean[] next;
+    protected int changedInStep;
+    protected int changedCells;
+
+    /**
+     * Constructs an empty LifeBoard.
+     *
+     * @param width         The number of columns.
+     * @param height        The number of rows.
+     * @param birthRules    The neighbour counts that bring a dead cell to life.
+     * @param survivalRules The neighbour counts that keep a live cell alive.
+     */
+    public LifeBoard(int width, int height, Set<Integer> birthRules, Set<Integer> survivalRules) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Board size must be positive: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.cells = new boolean[width * height];
+        this.next = new boolean[width * height];
+        for (int count = 0; count <= 8; count++) {
+            birth[count] = birthRules.contains(count);
+            survival[count] = survivalRules.contains(count);
+        }
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns whether the given cell is alive.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return true if the cell is alive.
+     */
+    @Override
+    public boolean get(int x, int y) {
+        return cells[x * height + y];
+    }
+
+    /**
+     * Sets the state of the given cell.
+     *
+     * @param x     The x-coordinate of the cell.
+     * @param y     The y-coordinate of the cell.
+     * @param alive The new state of the cell.
+     */
+    @Override
+    public void set(int x, int y, boolean alive) {
+        cells[x * height + y] = alive;
+    }
+
+    /**
+     * Computes the next generation for the columns in [from, to). The result only becomes
+     * visible once every column has been computed and {@link #commitStep()} is called.
+     *
+     * @param from The first column to compute.
+     * @param to   The column after the last one to compute.
+     */
+    @Override
+    public void stepColumns(int from, int to) {
+        for (int x = from; x < to; x++) {
+            int left = ((x + width - 1) % width) * height;
+            int centre = x * height;
+            int right = ((x + 1) % width) * height;
+            for (int y = 0; y < height; y++) {
+                if (stepCell(left, centre, right, y)) {
+                    changedInStep++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the next state of a single cell into the next generation.
+     *
+     * @param left   The offset of the column to the left.
+     * @param centre The offset of the cell's column.
+     * @param right  The offset of the column to the right.
+     * @param y      The y-coordinate of the cell.
+     * @return true if the cell changes state.
+     */
+    protected final boolean stepCell(int left, int centre, int right, int y) {
+        int up = (y + height - 1) % height;
+        int down = (y + 1) % height;
+
+        int alive = 0;
+        if (cells[left + up]) alive++;
+        if (cells[left + y]) alive++;
+        if (cells[left + down]) alive++;
+        if (cells[centre + up]) alive++;
+        if (cells[centre + down]) alive++;
+        if (cells[right + up]) alive++;
+        if (cells[right + y]) alive++;
+        if (cells[right + down]) alive++;
+
+        boolean current = cells[centre + y];
+        boolean result = current ? survival[alive] : birth[alive];
+        next[centre + y] = result;
+        return result != current;
+    }
+
+    /**
+     * Makes the generation computed by {@link #stepColumns(int, int)} the current one.
+     */
+    @Override
+    public void commitStep() {
+        boolean[] previous = cells;
+        cells = next;
+        next = previous;
+        changedCells = changedInStep;
+        changedInStep = 0;
+    }
+
+    @Override
+    public int getChangedCells() {
+        return changedCells;
+    }
+
+    /**
+     * Counts the live cells on the board.
+     *
+     * @return The number of live cells.
+     */
+    @Override
+    public int getPopulation() {
+        int population = 0;
+        for (boolean cell : cells) {
+            if (cell) population++;
+        }
+        return population;
+    }
+
+    /**
+     * Copies the board into a two-dimensional array.
+     *
+     * @return The cells indexed as [x][y].
+     */
+    @Override
+    public boolean[][] toArray() {
+        boolean[][] array = new boolean[width][height];
+        for (int x = 0; x < width; x++) {
+            System.arraycopy(cells, x * height, array[x], 0, height);
+        }
+        return array;
+    }
+
+    /**
+     * Packs the cells eight per byte in column-major order.
+     *
+     * @return The packed cells.
+     */
+    @Override
+    public byte[] toPacked() {
+        byte[] packed = new byte[(cells.length + 7) / 8];
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i]) {
+                packed[i >>> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * Replaces the cells with the contents of an array produced by {@link #toPacked()}.
+     *
+     * @param packed The packed cells.
+     */
+    @Override
+    public void loadPacked(byte[] packed) {
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = (packed[i >>> 3] & (1 << (i & 7))) != 0;
+        }
+    }
+}
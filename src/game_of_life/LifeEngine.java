@@ -0,0 +1,100 @@
+package game_of_life;
+
+/**
+ * The LifeEngine interface is implemented by every headless backend that can compute
+ * generations of a toroidal board. Cells are addressed as [x][y] like in {@link LifePanel}.
+ *
+ * <p>A generation is computed by calling {@link #stepColumns(int, int)} for every column,
+ * in as many ranges as needed, followed by {@link #commitStep()}. The packed form returned by
+ * {@link #toPacked()} is the same for all engines, so a board can be moved between them.
+ */
+public interface LifeEngine {
+
+    int getWidth();
+
+    int getHeight();
+
+    /**
+     * Returns whether the given cell is alive.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return true if the cell is alive.
+     */
+    boolean get(int x, int y);
+
+    /**
+     * Sets the state of the given cell. Must not be called between
+     * {@link #stepColumns(int, int)} and {@link #commitStep()}.
+     *
+     * @param x     The x-coordinate of the cell.
+     * @param y     The y-coordinate of the cell.
+     * @param alive The new state of the cell.
+     */
+    void set(int x, int y, boolean alive);
+
+    /**
+     * Computes the next generation for the columns in [from, to). The result only becomes
+     * visible once every column has been computed and {@link #commitStep()} is called.
+     *
+     * @param from The first column to compute.
+     * @param to   The column after the last one to compute.
+     */
+    void stepColumns(int from, int to);
+
+    /**
+     * Makes the generation computed by {@link #stepColumns(int, int)} the current one.
+     */
+    void commitStep();
+
+    /**
+     * Advances the whole board by one generation.
+     */
+    default void step() {
+        stepColumns(0, getWidth());
+        commitStep();
+    }
+
+    /**
+     * Returns how many cells changed state in the last committed generation.
+     *
+     * @return The number of changed cells.
+     */
+    int getChangedCells();
+
+    /**
+     * Counts the live cells on the board.
+     *
+     * @return The number of live cells.
+     */
+    int getPopulation();
+
+    /**
+     * Copies the board into a two-dimensional array.
+     *
+     * @return The cells indexed as [x][y].
+     */
+    default boolean[][] toArray() {
+        boolean[][] array = new boolean[getWidth()][getHeight()];
+        for (int x = 0; x < getWidth(); x++) {
+            for (int y = 0; y < getHeight(); y++) {
+                array[x][y] = get(x, y);
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Packs the cells eight per byte, indexed as {@code x * height + y}.
+     *
+     * @return The packed cells.
+     */
+    byte[] toPacked();
+
+    /**
+     * Replaces the cells with the contents of an array produced by {@link #toPacked()}.
+     *
+     * @param packed The packed cells.
+     */
+    void loadPacked(byte[] packed);
+}
@@ -17,6 +17,23 @@ import java.util.Set;
  * handling user interactions, and managing the state of each cell in the grid.
  */
 public class LifePanel extends JPanel implements ActionListener {
+    /**
+     * The ways cells can be colored on the grid.
+     */
+	public enum ColorMode { ALIVE, AGE, HEAT }
+
+	private static final int HEAT_BUMP = 64;
+	private static final Color[] AGE_COLORS = new Color[256];
+	private static final Color[] HEAT_COLORS = new Color[256];
+	static {
+		for (int i = 0; i < 256; i++) {
+			// Young cells are blue and turn red as they approach 64 generations.
+			float hue = 0.66f * (1f - Math.min(i, 64) / 64f);
+			AGE_COLORS[i] = Color.getHSBColor(hue, 0.8f, 1f);
+			HEAT_COLORS[i] = new Color(255, Math.min(255, i * 2), 0, Math.max(40, i));
+		}
+	}
+
 	protected int xPanel = 1300;
 	protected int yPanel = 700;
 	protected int size = 16;
@@ -28,6 +45,10 @@ public class LifePanel extends JPanel implements ActionListener {
 	protected Set<Integer> birthRules = new HashSet<>();
 	protected Set<Integer> survivalRules = new HashSet<>();
 	protected boolean gameRunning = false;
+	protected SpectatorServer spectatorServer;
+	protected ColorMode colorMode = ColorMode.ALIVE;
+	protected byte[][] age;
+	protected byte[][] heat;
 	boolean start = true;
 	Boolean dragState = null;
     
@@ -47,8 +68,7 @@ public class LifePanel extends JPanel implements ActionListener {
 
 		        if (x < xWidth && y < yHeight) {
 		            dragState = !beforeLife[x][y];
-		            beforeLife[x][y] = dragState;
-		            repaint();
+		            editCell(x, y, dragState);
 		        }
 		    }
 		    
@@ -82,9 +102,26 @@ public class LifePanel extends JPanel implements ActionListener {
 	    int y = e.getY() / size;
 	    
 	    if (x < xWidth && y < yHeight && beforeLife[x][y] != dragState) {
-	        beforeLife[x][y] = dragState;
-	        repaint();
+	        editCell(x, y, dragState);
+	    }
+	}
+
+    /**
+     * Sets a cell edited with the mouse. When cells are colored by age or heat, the cell
+     * starts over at age zero and is marked as flipped in the heatmap.
+     *
+     * @param x     The x-coordinate of the cell.
+     * @param y     The y-coordinate of the cell.
+     * @param alive The new state of the cell.
+     */
+	private void editCell(int x, int y, boolean alive) {
+	    beforeLife[x][y] = alive;
+	    if (colorMode != ColorMode.ALIVE) {
+	        age[x][y] = 0;
+	        heat[x][y] = (byte) Math.min(255, (heat[x][y] & 0xFF) + HEAT_BUMP);
 	    }
+	    publishBoard();
+	    repaint();
 	}
 	
     /**
@@ -121,6 +158,15 @@ public class LifePanel extends JPanel implements ActionListener {
 		copyArray();
 		for (int i = 0; i < xWidth; i++) {
 			for (int j = 0; j < yHeight; j++) {
+				if (colorMode == ColorMode.AGE && life[i][j]) {
+					g.setColor(AGE_COLORS[Math.max(1, age[i][j] & 0xFF)]);
+				} else if (colorMode == ColorMode.HEAT && heat[i][j] != 0) {
+					g.setColor(HEAT_COLORS[heat[i][j] & 0xFF]);
+					g.fillRect(i * size, j * size, size, size);
+					continue;
+				} else if (colorMode == ColorMode.HEAT && life[i][j]) {
+					g.setColor(Color.DARK_GRAY);
+				}
 				if (life[i][j])
 				    g.fillRect(i * size, j * size, size, size);
 			}
@@ -162,11 +208,14 @@ public class LifePanel extends JPanel implements ActionListener {
 
     /**
      * Updates the state of the grid based on the current rules of the game.
+     * When cells are colored by age or heat, the age counters and the heatmap
+     * are updated in the same pass.
      *
      * @param e The action event.
      */
     public void actionPerformed(ActionEvent e) {
         int aliveNeighbours;
+        boolean trackActivity = colorMode != ColorMode.ALIVE;
 
         for (int i = 0; i < xWidth; i++) {
             for (int j = 0; j < yHeight; j++) {
@@ -176,8 +225,59 @@ public class LifePanel extends JPanel implements ActionListener {
                 boolean shouldBeAlive = (currentlyAlive && survivalRules.contains(aliveNeighbours)) || (!currentlyAlive && birthRules.contains(aliveNeighbours));
 
                 beforeLife[i][j] = shouldBeAlive;
+
+                if (trackActivity) {
+                    int cellAge = age[i][j] & 0xFF;
+                    age[i][j] = (byte) (!shouldBeAlive ? 0 : currentlyAlive ? Math.min(255, cellAge + 1) : 1);
+
+                    // Heat decays by an eighth every generation and is bumped whenever the cell flips.
+                    int cellHeat = heat[i][j] & 0xFF;
+                    cellHeat -= (cellHeat + 7) >> 3;
+                    if (shouldBeAlive != currentlyAlive) {
+                        cellHeat = Math.min(255, cellHeat + HEAT_BUMP);
+                    }
+                    heat[i][j] = (byte) cellHeat;
+                }
             }
         }
+        publishBoard();
+        repaint();
+    }
+
+    /**
+     * Sets the server that streams the board to spectators and sends it the current board,
+     * so viewers see the board even before the first generation is computed.
+     *
+     * @param server The spectator server, or null to stop streaming.
+     */
+    public void setSpectatorServer(SpectatorServer server) {
+        spectatorServer = server;
+        publishBoard();
+    }
+
+    /**
+     * Sends the board as it currently stands to the spectators, if a server is running.
+     * This is called after every generation and every edit, so viewers of a paused game
+     * still see the board as it is being edited.
+     */
+    public void publishBoard() {
+        if (spectatorServer != null) {
+            spectatorServer.publish(beforeLife);
+        }
+    }
+    
+    /**
+     * Sets how cells are colored. Age and heat tracking only run while one of
+     * those modes is selected and start from zero when switched on.
+     *
+     * @param mode The new color mode.
+     */
+    public void setColorMode(ColorMode mode) {
+        if (mode != ColorMode.ALIVE && colorMode == ColorMode.ALIVE) {
+            age = new byte[xWidth][yHeight];
+            heat = new byte[xWidth][yHeight];
+        }
+        colorMode = mode;
         repaint();
     }
     
@@ -225,6 +325,8 @@ public class LifePanel extends JPanel implements ActionListener {
 
         life = new boolean[xWidth][yHeight];
         beforeLife = new boolean[xWidth][yHeight];
+        age = new byte[xWidth][yHeight];
+        heat = new byte[xWidth][yHeight];
 
         for (int i = 0; i < xWidth; i++) {
             for (int j = 0; j < yHeight; j++) {
@@ -233,6 +335,7 @@ public class LifePanel extends JPanel implements ActionListener {
             }
         }
 
+        publishBoard();
         repaint();
     }
 }
\ No newline at end of file
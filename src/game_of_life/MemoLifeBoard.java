@@ -0,0 +1,182 @@
+package game_of_life;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * The MemoLifeBoard class is an engine suited to boards that have settled into still lifes and
+ * short oscillators. It remembers the last {@link #MAX_PERIOD} generations, and once the board
+ * returns to one of them it replays the remembered cycle instead of computing new generations.
+ * Editing or reloading the board ends the replay and clears what was remembered.
+ *
+ * <p>The history is stored packed, one bit per cell, so it costs two bytes per cell on top of
+ * the board itself regardless of the board's size.
+ */
+public class MemoLifeBoard extends LifeBoard {
+    static final int MAX_PERIOD = 16;
+
+    private final long[][] history = new long[MAX_PERIOD][];
+    private final int[] historyHashes = new int[MAX_PERIOD];
+    private final int[] historyChanges = new int[MAX_PERIOD];
+    private final long[] current;
+    private int historyHead;
+    private int historySize;
+    private long[][] cycle;
+    private int[] cycleChanges;
+    private int cyclePosition;
+    private long lookups;
+    private long hits;
+
+    /**
+     * Constructs an empty MemoLifeBoard.
+     *
+     * @param width         The number of columns.
+     * @param height        The number of rows.
+     * @param birthRules    The neighbour counts that bring a dead cell to life.
+     * @param survivalRules The neighbour counts that keep a live cell alive.
+     */
+    public MemoLifeBoard(int width, int height, Set<Integer> birthRules, Set<Integer> survivalRules) {
+        super(width, height, birthRules, survivalRules);
+        current = new long[(width * height + 63) / 64];
+    }
+
+    @Override
+    public void set(int x, int y, boolean alive) {
+        forget();
+        super.set(x, y, alive);
+    }
+
+    @Override
+    public void stepColumns(int from, int to) {
+        if (cycle == null) {
+            super.stepColumns(from, to);
+        }
+    }
+
+    @Override
+    public void commitStep() {
+        lookups++;
+        if (cycle != null) {
+            hits++;
+            cyclePosition = (cyclePosition + 1) % cycle.length;
+            unpack(cycle[cyclePosition]);
+            changedCells = cycleChanges[cyclePosition];
+            return;
+        }
+
+        super.commitStep();
+        pack();
+        int hash = Arrays.hashCode(current);
+        // Search from the newest generation backwards so the shortest period is found.
+        for (int age = 1; age <= historySize; age++) {
+            int slot = (historyHead - age + MAX_PERIOD) % MAX_PERIOD;
+            if (historyHashes[slot] == hash && Arrays.equals(history[slot], current)) {
+                enterCycle(slot, age);
+                return;
+            }
+        }
+        remember(hash);
+    }
+
+    @Override
+    public void loadPacked(byte[] packed) {
+        forget();
+        super.loadPacked(packed);
+    }
+
+    /**
+     * Returns whether the board is currently replaying a remembered cycle.
+     *
+     * @return true if generations are being replayed.
+     */
+    public boolean isReplaying() {
+        return cycle != null;
+    }
+
+    /**
+     * Returns how many generations have been looked up in the remembered history.
+     *
+     * @return The number of lookups.
+     */
+    public long getCacheLookups() {
+        return lookups;
+    }
+
+    /**
+     * Returns how many generations were replayed instead of computed.
+     *
+     * @return The number of hits.
+     */
+    public long getCacheHits() {
+        return hits;
+    }
+
+    /**
+     * Starts replaying the generations from the given history slot up to the newest one.
+     *
+     * @param slot   The slot holding a generation equal to the current one.
+     * @param period The number of generations in the cycle.
+     */
+    private void enterCycle(int slot, int period) {
+        cycle = new long[period][];
+        cycleChanges = new int[period];
+        for (int i = 0; i < period; i++) {
+            int s = (slot + i) % MAX_PERIOD;
+            cycle[i] = history[s];
+            cycleChanges[i] = historyChanges[s];
+        }
+        // The first entry is the generation just computed, reached with the current change count.
+        cycleChanges[0] = changedCells;
+        cyclePosition = 0;
+    }
+
+    /**
+     * Stores a copy of the packed current generation in the history ring.
+     *
+     * @param hash The hash of the current generation.
+     */
+    private void remember(int hash) {
+        int slot = historyHead;
+        if (history[slot] == null) {
+            history[slot] = current.clone();
+        } else {
+            System.arraycopy(current, 0, history[slot], 0, current.length);
+        }
+        historyHashes[slot] = hash;
+        historyChanges[slot] = changedCells;
+        historyHead = (historyHead + 1) % MAX_PERIOD;
+        historySize = Math.min(historySize + 1, MAX_PERIOD);
+    }
+
+    /**
+     * Stops any replay and clears the history, since it no longer follows from the cells.
+     */
+    private void forget() {
+        cycle = null;
+        cycleChanges = null;
+        historySize = 0;
+    }
+
+    /**
+     * Packs the cells into {@link #current}, one bit per cell.
+     */
+    private void pack() {
+        Arrays.fill(current, 0);
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i]) {
+                current[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * Replaces the cells with a packed generation from the history.
+     *
+     * @param packed The packed generation.
+     */
+    private void unpack(long[] packed) {
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = (packed[i >>> 6] & 1L << i) != 0;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package game_of_life;
+
+import java.util.Set;
+
+/**
+ * The PackedLifeBoard class is a bit-parallel engine suited to dense, chaotic boards. Each
+ * column is packed into 64-bit words, and the neighbour counts of 64 cells are added at once
+ * with bitwise adders, so every cell is visited but at a fraction of the cost of
+ * {@link LifeBoard}.
+ */
+public class PackedLifeBoard implements LifeEngine {
+    private final int width;
+    private final int height;
+    private final int words;
+    private final long lastMask;
+    private final boolean[] birth = new boolean[9];
+    private final boolean[] survival = new boolean[9];
+    private long[] cells;
+    private long[] next;
+    private int changedInStep;
+    private int changedCells;
+
+    /**
+     * Constructs an empty PackedLifeBoard.
+     *
+     * @param width         The number of columns.
+     * @param height        The number of rows.
+     * @param birthRules    The neighbour counts that bring a dead cell to life.
+     * @param survivalRules The neighbour counts that keep a live cell alive.
+     */
+    public PackedLifeBoard(int width, int height, Set<Integer> birthRules, Set<Integer> survivalRules) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Board size must be positive: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.words = (height + 63) >>> 6;
+        this.lastMask = (height & 63) == 0 ? -1L : (1L << (height & 63)) - 1;
+        this.cells = new long[width * words];
+        this.next = new long[width * words];
+        for (int count = 0; count <= 8; count++) {
+            birth[count] = birthRules.contains(count);
+            survival[count] = survivalRules.contains(count);
+        }
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public boolean get(int x, int y) {
+        return (cells[x * words + (y >>> 6)] & (1L << y)) != 0;
+    }
+
+    @Override
+    public void set(int x, int y, boolean alive) {
+        if (alive) {
+            cells[x * words + (y >>> 6)] |= 1L << y;
+        } else {
+            cells[x * words + (y >>> 6)] &= ~(1L << y);
+        }
+    }
+
+    @Override
+    public void stepColumns(int from, int to) {
+        for (int x = from; x < to; x++) {
+            int left = ((x + width - 1) % width) * words;
+            int centre = x * words;
+            int right = ((x + 1) % width) * words;
+            for (int w = 0; w < words; w++) {
+                long current = cells[centre + w];
+
+                long n0 = up(left, w), n1 = cells[left + w], n2 = down(left, w);
+                long n3 = up(centre, w), n4 = down(centre, w);
+                long n5 = up(right, w), n6 = cells[right + w], n7 = down(right, w);
+
+                // Add the eight neighbour bitmaps with a tree of full adders into a
+                // four-bit count per cell (c3 c2 c1 c0).
+                long x1 = n0 ^ n1, s1 = x1 ^ n2, t1 = (n0 & n1) | (n2 & x1);
+                long x2 = n3 ^ n4, s2 = x2 ^ n5, t2 = (n3 & n4) | (n5 & x2);
+                long s3 = n6 ^ n7, t3 = n6 & n7;
+                long x4 = s1 ^ s2, c0 = x4 ^ s3, u = (s1 & s2) | (s3 & x4);
+                long x5 = t1 ^ t2, v = x5 ^ t3, fourA = (t1 & t2) | (t3 & x5);
+                long c1 = v ^ u, fourB = v & u;
+                long c2 = fourA ^ fourB, c3 = fourA & fourB;
+
+                long result = 0;
+                for (int count = 0; count <= 8; count++) {
+                    long mask = (birth[count] ? ~current : 0) | (survival[count] ? current : 0);
+                    if (mask != 0) {
+                        long equal = ((count & 1) != 0 ? c0 : ~c0) & ((count & 2) != 0 ? c1 : ~c1)
+                                & ((count & 4) != 0 ? c2 : ~c2) & ((count & 8) != 0 ? c3 : ~c3);
+                        result |= equal & mask;
+                    }
+                }
+                if (w == words - 1) {
+                    result &= lastMask;
+                }
+                next[centre + w] = result;
+                changedInStep += Long.bitCount(result ^ current);
+            }
+        }
+    }
+
+    /**
+     * Returns word w of a column shifted so that every bit holds the cell above it (y - 1).
+     */
+    private long up(int column, int w) {
+        long carry = w > 0
+                ? cells[column + w - 1] >>> 63
+                : (cells[column + words - 1] >>> ((height - 1) & 63)) & 1;
+        return (cells[column + w] << 1) | carry;
+    }
+
+    /**
+     * Returns word w of a column shifted so that every bit holds the cell below it (y + 1).
+     */
+    private long down(int column, int w) {
+        if (w < words - 1) {
+            return (cells[column + w] >>> 1) | (cells[column + w + 1] << 63);
+        }
+        return (cells[column + w] >>> 1) | ((cells[column] & 1) << ((height - 1) & 63));
+    }
+
+    @Override
+    public void commitStep() {
+        long[] previous = cells;
+        cells = next;
+        next = previous;
+        changedCells = changedInStep;
+        changedInStep = 0;
+    }
+
+    @Override
+    public int getChangedCells() {
+        return changedCells;
+    }
+
+    @Override
+    public int getPopulation() {
+        int population = 0;
+        for (long word : cells) {
+            population += Long.bitCount(word);
+        }
+        return population;
+    }
+
+    @Override
+    public byte[] toPacked() {
+        byte[] packed = new byte[(width * height + 7) / 8];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (get(x, y)) {
+                    int i = x * height + y;
+                    packed[i >>> 3] |= (byte) (1 << (i & 7));
+                }
+            }
+        }
+        return packed;
+    }
+
+    @Override
+    public void loadPacked(byte[] packed) {
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                int i = x * height + y;
+                set(x, y, (packed[i >>> 3] & (1 << (i & 7))) != 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,458 @@
+package game_of_life;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The SimulationService class hosts many independent boards at once, each with its own rules,
+ * size and speed, and steps them on a fixed pool of worker threads.
+ *
+ * <p>Work is handed out in slices of at most {@link #CELLS_PER_SLICE} cells. A board with more
+ * work left goes to the back of the queue after each slice, so a few huge boards cannot starve
+ * the many small ones. Boards that have not been touched for a while are parked: their cells are
+ * compressed into a direct buffer outside the heap and restored the next time they are used.
+ * A parked board keeps the engine it was running on and the measurements behind that choice.
+ * Each board runs on an {@link AdaptiveLifeBoard}, which picks the engine that suits it.
+ */
+public class SimulationService {
+    static final int CELLS_PER_SLICE = 1 << 16;
+
+    private final Map<Integer, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private final ExecutorService workers;
+    private final ScheduledExecutorService clock;
+    private final long idleMillis;
+    private final BoardFactory boardFactory;
+
+    /**
+     * Creates the board behind each new session.
+     */
+    interface BoardFactory {
+        AdaptiveLifeBoard create(int width, int height, Set<Integer> birthRules, Set<Integer> survivalRules);
+    }
+
+    /**
+     * Constructs a SimulationService.
+     *
+     * @param workerCount The number of worker threads stepping the boards.
+     * @param idleMillis  How long a board may stay untouched before it is parked.
+     */
+    public SimulationService(int workerCount, long idleMillis) {
+        this(workerCount, idleMillis, AdaptiveLifeBoard::new);
+    }
+
+    /**
+     * Constructs a SimulationService whose boards are created by the given factory.
+     *
+     * @param workerCount  The number of worker threads stepping the boards.
+     * @param idleMillis   How long a board may stay untouched before it is parked.
+     * @param boardFactory Creates the board of every new session.
+     */
+    SimulationService(int workerCount, long idleMillis, BoardFactory boardFactory) {
+        this.boardFactory = boardFactory;
+        this.workers = Executors.newFixedThreadPool(workerCount);
+        this.clock = Executors.newSingleThreadScheduledExecutor();
+        this.idleMillis = idleMillis;
+
+        long sweepMillis = Math.max(1, idleMillis / 2);
+        clock.scheduleWithFixedDelay(this::parkIdleBoards, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a new, empty board.
+     *
+     * @param width         The number of columns.
+     * @param height        The number of rows.
+     * @param birthRules    The neighbour counts that bring a dead cell to life.
+     * @param survivalRules The neighbour counts that keep a live cell alive.
+     * @param delay         The time between generations in milliseconds while the board is running.
+     * @return The id of the new board.
+     */
+    public int createBoard(int width, int height, Set<Integer> birthRules, Set<Integer> survivalRules, int delay) {
+        if (delay <= 0) {
+            throw new IllegalArgumentException("Delay must be positive: " + delay);
+        }
+        int id = nextId.getAndIncrement();
+        sessions.put(id, new Session(width, height, boardFactory.create(width, height, birthRules, survivalRules), delay));
+        return id;
+    }
+
+    /**
+     * Deletes a board, discarding any pending work.
+     *
+     * @param id The id of the board.
+     */
+    public void deleteBoard(int id) {
+        Session session = sessions.remove(id);
+        if (session != null) {
+            synchronized (session) {
+                session.deleted = true;
+                session.cancelTimer();
+                session.parked = null;
+                session.board = null;
+                session.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of boards currently hosted.
+     *
+     * @return The number of boards.
+     */
+    public int getBoardCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Sets the state of a cell. Edits made while a generation is being computed take effect
+     * right after it completes, so the returned generation tells the caller which board the
+     * edit landed on: it is applied to that generation before the one after it is computed.
+     *
+     * @param id    The id of the board.
+     * @param x     The x-coordinate of the cell.
+     * @param y     The y-coordinate of the cell.
+     * @param alive The new state of the cell.
+     * @return The generation the edit was applied to.
+     */
+    public long setCell(int id, int x, int y, boolean alive) {
+        Session session = session(id);
+        synchronized (session) {
+            LifeEngine board = session.restore();
+            if (x < 0 || x >= board.getWidth() || y < 0 || y >= board.getHeight()) {
+                throw new IndexOutOfBoundsException("Cell out of bounds: " + x + "," + y);
+            }
+            if (session.progress == 0) {
+                board.set(x, y, alive);
+                return session.generation;
+            }
+            session.edits.add(new int[] {x, y, alive ? 1 : 0});
+            return session.generation + 1;
+        }
+    }
+
+    /**
+     * Queues the given number of generations for a board. This returns immediately.
+     *
+     * @param id          The id of the board.
+     * @param generations The number of generations to compute.
+     */
+    public void step(int id, int generations) {
+        if (generations < 0) {
+            throw new IllegalArgumentException("Number of generations must not be negative: " + generations);
+        }
+        Session session = session(id);
+        synchronized (session) {
+            session.pending += generations;
+            schedule(session);
+        }
+    }
+
+    /**
+     * Starts stepping a board once per its delay.
+     *
+     * @param id The id of the board.
+     */
+    public void startBoard(int id) {
+        Session session = session(id);
+        synchronized (session) {
+            if (session.timer == null) {
+                session.timer = clock.scheduleAtFixedRate(() -> tick(session), session.delay, session.delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Stops the timed stepping of a board.
+     *
+     * @param id The id of the board.
+     */
+    public void stopBoard(int id) {
+        Session session = session(id);
+        synchronized (session) {
+            session.cancelTimer();
+        }
+    }
+
+    /**
+     * Waits until a board has reached at least the given generation.
+     *
+     * @param id         The id of the board.
+     * @param generation The generation to wait for.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public void awaitGeneration(int id, long generation) throws InterruptedException {
+        Session session = session(id);
+        synchronized (session) {
+            while (session.generation < generation && !session.deleted) {
+                session.wait();
+            }
+        }
+    }
+
+    /**
+     * Waits until a board has no pending generations left.
+     *
+     * @param id The id of the board.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public void awaitIdle(int id) throws InterruptedException {
+        Session session = session(id);
+        synchronized (session) {
+            while (session.pending > 0 && !session.deleted) {
+                session.wait();
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of a board.
+     *
+     * @param id The id of the board.
+     * @return The cells indexed as [x][y].
+     */
+    public boolean[][] getBoard(int id) {
+        Session session = session(id);
+        synchronized (session) {
+            return session.restore().toArray();
+        }
+    }
+
+    /**
+     * Returns the number of generations a board has completed.
+     *
+     * @param id The id of the board.
+     * @return The generation number.
+     */
+    public long getGeneration(int id) {
+        Session session = session(id);
+        synchronized (session) {
+            return session.generation;
+        }
+    }
+
+    /**
+     * Counts the live cells of a board.
+     *
+     * @param id The id of the board.
+     * @return The number of live cells.
+     */
+    public int getPopulation(int id) {
+        Session session = session(id);
+        synchronized (session) {
+            return session.restore().getPopulation();
+        }
+    }
+
+    /**
+     * Returns whether a board is currently parked outside the heap.
+     *
+     * @param id The id of the board.
+     * @return true if the board is parked.
+     */
+    public boolean isParked(int id) {
+        Session session = session(id);
+        synchronized (session) {
+            return session.parked != null;
+        }
+    }
+
+    /**
+     * Stops all workers and timers. Hosted boards are discarded.
+     */
+    public void shutdown() {
+        clock.shutdownNow();
+        workers.shutdownNow();
+        sessions.clear();
+    }
+
+    private Session session(int id) {
+        Session session = sessions.get(id);
+        if (session == null) {
+            throw new IllegalArgumentException("No board with id " + id);
+        }
+        return session;
+    }
+
+    /**
+     * Adds one generation for a running board. A board that has not finished its previous
+     * tick does not build up a backlog, so slow boards simply run slower than their delay.
+     *
+     * @param session The running board.
+     */
+    private void tick(Session session) {
+        synchronized (session) {
+            // A tick that was already waiting for the lock when the board was stopped is ignored.
+            if (session.timer != null && session.pending == 0) {
+                session.pending = 1;
+                schedule(session);
+            }
+        }
+    }
+
+    /**
+     * Puts a board on the work queue unless it is already there. Callers hold the session lock.
+     *
+     * @param session The board with pending work.
+     */
+    private void schedule(Session session) {
+        if (!session.queued && session.pending > 0 && !session.deleted) {
+            session.queued = true;
+            workers.execute(() -> runSlice(session));
+        }
+    }
+
+    /**
+     * Computes up to {@link #CELLS_PER_SLICE} cells of work for a board and requeues it if
+     * more generations are pending.
+     *
+     * @param session The board to work on.
+     */
+    private void runSlice(Session session) {
+        synchronized (session) {
+            session.queued = false;
+            if (session.deleted) {
+                return;
+            }
+            LifeEngine board = session.restore();
+            int width = board.getWidth();
+            int columnsPerSlice = Math.max(1, CELLS_PER_SLICE / board.getHeight());
+            int budget = columnsPerSlice;
+
+            while (session.pending > 0 && budget > 0) {
+                int to = Math.min(width, session.progress + budget);
+                board.stepColumns(session.progress, to);
+                budget -= to - session.progress;
+                session.progress = to;
+
+                if (to == width) {
+                    board.commitStep();
+                    session.progress = 0;
+                    session.pending--;
+                    session.generation++;
+                    for (int[] edit : session.edits) {
+                        board.set(edit[0], edit[1], edit[2] == 1);
+                    }
+                    session.edits.clear();
+                    session.notifyAll();
+                }
+            }
+            session.lastUsed = System.currentTimeMillis();
+            schedule(session);
+        }
+    }
+
+    /**
+     * Parks every board that has no pending work, is not running and has been idle for longer
+     * than the idle time.
+     */
+    private void parkIdleBoards() {
+        long now = System.currentTimeMillis();
+        for (Session session : sessions.values()) {
+            synchronized (session) {
+                if (!session.deleted && session.parked == null && session.pending == 0 && session.timer == null
+                        && now - session.lastUsed >= idleMillis) {
+                    session.park();
+                }
+            }
+        }
+    }
+
+    /**
+     * A hosted board together with its scheduling state. All fields are guarded by the
+     * session's own lock.
+     */
+    private static final class Session {
+        private final int delay;
+        private final int width;
+        private final int height;
+        private final List<int[]> edits = new ArrayList<>();
+        private AdaptiveLifeBoard board;
+        private ByteBuffer parked;
+        private ScheduledFuture<?> timer;
+        private long generation;
+        private long pending;
+        private int progress;
+        private boolean queued;
+        private boolean deleted;
+        private long lastUsed = System.currentTimeMillis();
+
+        Session(int width, int height, AdaptiveLifeBoard board, int delay) {
+            this.width = width;
+            this.height = height;
+            this.delay = delay;
+            this.board = board;
+        }
+
+        /**
+         * Returns the board, unparking it first if necessary.
+         *
+         * @return The live board.
+         */
+        LifeEngine restore() {
+            if (deleted) {
+                throw new IllegalStateException("Board has been deleted");
+            }
+            lastUsed = System.currentTimeMillis();
+            if (parked != null) {
+                byte[] compressed = new byte[parked.remaining()];
+                parked.duplicate().get(compressed);
+                byte[] packed = new byte[(width * height + 7) / 8];
+                Inflater inflater = new Inflater();
+                try {
+                    inflater.setInput(compressed);
+                    inflater.inflate(packed);
+                } catch (DataFormatException e) {
+                    throw new IllegalStateException("Parked board is corrupt", e);
+                } finally {
+                    inflater.end();
+                }
+                board.restoreCells(packed);
+                parked = null;
+            }
+            return board;
+        }
+
+        /**
+         * Compresses the cells into a direct buffer and drops the on-heap copy.
+         */
+        void park() {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(board.releaseCells());
+                deflater.finish();
+                while (!deflater.finished()) {
+                    compressed.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } finally {
+                deflater.end();
+            }
+            parked = ByteBuffer.allocateDirect(compressed.size());
+            parked.put(compressed.toByteArray());
+            parked.flip();
+        }
+
+        void cancelTimer() {
+            if (timer != null) {
+                timer.cancel(false);
+                timer = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package game_of_life;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * The SpectatorClient class connects to a {@link SpectatorServer} and rebuilds the board
+ * locally from the keyframes and delta frames it receives.
+ */
+public class SpectatorClient implements Closeable {
+    private final Socket socket;
+    private final DataInputStream in;
+    private boolean[][] board;
+    private int generation;
+
+    /**
+     * Constructs a SpectatorClient connected to the given server.
+     *
+     * @param host The host the server runs on.
+     * @param port The port the server listens on.
+     * @throws IOException If the connection cannot be opened.
+     */
+    public SpectatorClient(String host, int port) throws IOException {
+        socket = new Socket(host, port);
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+    }
+
+    /**
+     * Reads the next frame from the server and applies it to the local board.
+     *
+     * @return The board after applying the frame, indexed as [x][y].
+     * @throws IOException If the connection fails or the frame is malformed.
+     */
+    public boolean[][] readFrame() throws IOException {
+        byte type = in.readByte();
+        int frameGeneration = in.readInt();
+        int width = in.readInt();
+        int height = in.readInt();
+
+        if (type == SpectatorServer.KEYFRAME) {
+            byte[] packed = new byte[(width * height + 7) / 8];
+            in.readFully(packed);
+            board = new boolean[width][height];
+            for (int i = 0; i < width * height; i++) {
+                board[i / height][i % height] = (packed[i >>> 3] & (1 << (i & 7))) != 0;
+            }
+        } else if (type == SpectatorServer.DELTA) {
+            if (board == null || board.length != width || board[0].length != height) {
+                throw new IOException("Delta frame received without a matching keyframe");
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                int index = in.readInt();
+                board[index / height][index % height] ^= true;
+            }
+        } else {
+            throw new IOException("Unknown frame type: " + type);
+        }
+        generation = frameGeneration;
+        return board;
+    }
+
+    /**
+     * Returns the generation of the last frame read.
+     *
+     * @return The generation number.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    /**
+     * Connects to a running server and prints the population of every frame received.
+     *
+     * @param args The host and port, defaulting to localhost and 4567.
+     * @throws IOException If the connection fails.
+     */
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 4567;
+
+        try (SpectatorClient client = new SpectatorClient(host, port)) {
+            while (true) {
+                boolean[][] frame = client.readFrame();
+                int population = 0;
+                for (boolean[] column : frame) {
+                    for (boolean cell : column) {
+                        if (cell) population++;
+                    }
+                }
+                System.out.println("Generation " + client.getGeneration() + ": " + population + " alive");
+            }
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package game_of_life;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The SpectatorServer class streams the evolving board to remote viewers over a plain TCP
+ * binary protocol. Every viewer first receives a keyframe holding the whole board, followed
+ * by one delta frame per published board listing only the cells that changed. Boards are
+ * published after every generation and every edit, so the generation in a frame header
+ * counts published boards rather than computed generations.
+ *
+ * <p>Each connection is served by its own writer thread that holds at most one pending frame.
+ * When a viewer is still busy with the previous frame, the pending delta is replaced by a fresh
+ * keyframe instead of being queued, so a slow viewer never blocks the simulation or the other
+ * viewers.
+ *
+ * <p>Frame layout (big-endian): a type byte ({@code 'K'} or {@code 'D'}), the generation, the
+ * width and the height as ints. A keyframe then carries the cells packed eight per byte in
+ * column-major order; a delta frame carries a count followed by the flattened index
+ * ({@code x * height + y}) of every toggled cell.
+ */
+public class SpectatorServer {
+    static final byte KEYFRAME = 'K';
+    static final byte DELTA = 'D';
+
+    private final ServerSocket serverSocket;
+    private final List<Spectator> spectators = new CopyOnWriteArrayList<>();
+    private volatile boolean running = true;
+
+    private boolean[] lastBoard;
+    private int width;
+    private int height;
+    private int generation;
+    private byte[] keyframe;
+    private int[] changes = new int[0];
+    private int droppedFrames;
+
+    /**
+     * Constructs a SpectatorServer listening on the given port and starts accepting viewers.
+     *
+     * @param port The TCP port to listen on, or 0 to pick a free port.
+     * @throws IOException If the port cannot be bound.
+     */
+    public SpectatorServer(int port) throws IOException {
+        serverSocket = new ServerSocket(port);
+        Thread acceptThread = new Thread(this::acceptLoop, "spectator-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     *
+     * @return The local port.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the number of currently connected viewers.
+     *
+     * @return The number of viewers.
+     */
+    public int getSpectatorCount() {
+        return spectators.size();
+    }
+
+    /**
+     * Returns how many times a pending frame was replaced because its viewer fell behind.
+     *
+     * @return The number of dropped frames.
+     */
+    synchronized int getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    /**
+     * Publishes the current board to all viewers. This never blocks on the network.
+     *
+     * @param board The board to publish, indexed as [x][y].
+     */
+    public synchronized void publish(boolean[][] board) {
+        int w = board.length;
+        int h = w > 0 ? board[0].length : 0;
+        generation++;
+        keyframe = null;
+
+        byte[] delta = null;
+        if (lastBoard == null || w != width || h != height) {
+            width = w;
+            height = h;
+            lastBoard = new boolean[w * h];
+            for (int i = 0; i < w; i++) {
+                System.arraycopy(board[i], 0, lastBoard, i * h, h);
+            }
+        } else {
+            int count = 0;
+            for (int i = 0; i < w; i++) {
+                int offset = i * h;
+                for (int j = 0; j < h; j++) {
+                    if (board[i][j] != lastBoard[offset + j]) {
+                        lastBoard[offset + j] = board[i][j];
+                        if (count == changes.length) {
+                            changes = Arrays.copyOf(changes, Math.max(16, count * 2));
+                        }
+                        changes[count++] = offset + j;
+                    }
+                }
+            }
+            // A delta larger than the keyframe buys nothing, so fall back to a keyframe.
+            if (count * 4 < packedSize()) {
+                delta = encodeDelta(count);
+            }
+        }
+
+        for (Spectator spectator : spectators) {
+            if (delta == null) {
+                spectator.offerKeyframe(keyframe());
+            } else if (!spectator.offerDelta(delta)) {
+                droppedFrames++;
+                spectator.offerKeyframe(keyframe());
+            }
+        }
+    }
+
+    /**
+     * Stops accepting viewers and disconnects all connected ones.
+     */
+    public void close() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        for (Spectator spectator : spectators) {
+            spectator.close();
+        }
+    }
+
+    /**
+     * Accepts incoming connections and starts a writer thread for each viewer.
+     */
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Spectator spectator = new Spectator(socket);
+                register(spectator);
+                Thread writer = new Thread(spectator, "spectator-" + socket.getRemoteSocketAddress());
+                writer.setDaemon(true);
+                writer.start();
+            } catch (SocketException e) {
+                // Thrown by accept() once the server socket is closed.
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Adds a viewer and hands it the latest keyframe, if a board has been published yet.
+     *
+     * @param spectator The viewer to add.
+     */
+    private synchronized void register(Spectator spectator) {
+        if (lastBoard != null) {
+            spectator.offerKeyframe(keyframe());
+        }
+        spectators.add(spectator);
+    }
+
+    /**
+     * Returns the keyframe for the current generation, encoding it on first use.
+     *
+     * @return The encoded keyframe.
+     */
+    private byte[] keyframe() {
+        if (keyframe == null) {
+            byte[] packed = new byte[packedSize()];
+            for (int i = 0; i < lastBoard.length; i++) {
+                if (lastBoard[i]) {
+                    packed[i >>> 3] |= (byte) (1 << (i & 7));
+                }
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(13 + packed.length);
+            DataOutputStream out = new DataOutputStream(bytes);
+            try {
+                writeHeader(out, KEYFRAME);
+                out.write(packed);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            keyframe = bytes.toByteArray();
+        }
+        return keyframe;
+    }
+
+    /**
+     * Encodes the first count entries of the change list as a delta frame.
+     *
+     * @param count The number of changed cells.
+     * @return The encoded delta frame.
+     */
+    private byte[] encodeDelta(int count) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(17 + count * 4);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            writeHeader(out, DELTA);
+            out.writeInt(count);
+            for (int i = 0; i < count; i++) {
+                out.writeInt(changes[i]);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void writeHeader(DataOutputStream out, byte type) throws IOException {
+        out.writeByte(type);
+        out.writeInt(generation);
+        out.writeInt(width);
+        out.writeInt(height);
+    }
+
+    private int packedSize() {
+        return (width * height + 7) / 8;
+    }
+
+    /**
+     * A connected viewer together with its single pending frame slot.
+     */
+    private final class Spectator implements Runnable {
+        private final Socket socket;
+        private byte[] pending;
+        private boolean open = true;
+
+        Spectator(Socket socket) {
+            this.socket = socket;
+        }
+
+        /**
+         * Queues a delta frame unless the previous frame is still pending.
+         *
+         * @param frame The delta frame.
+         * @return true if the frame was queued, false if the viewer needs a keyframe instead.
+         */
+        synchronized boolean offerDelta(byte[] frame) {
+            if (pending != null) {
+                return false;
+            }
+            pending = frame;
+            notifyAll();
+            return true;
+        }
+
+        /**
+         * Replaces whatever is pending with a keyframe, resynchronising the viewer.
+         *
+         * @param frame The keyframe.
+         */
+        synchronized void offerKeyframe(byte[] frame) {
+            pending = frame;
+            notifyAll();
+        }
+
+        synchronized void close() {
+            open = false;
+            notifyAll();
+            try {
+                socket.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        @Override
+        public void run() {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+                while (true) {
+                    byte[] frame;
+                    synchronized (this) {
+                        while (pending == null && open) {
+                            wait();
+                        }
+                        if (!open) {
+                            break;
+                        }
+                        frame = pending;
+                        pending = null;
+                    }
+                    out.write(frame);
+                    out.flush();
+                }
+            } catch (IOException | InterruptedException e) {
+                // The viewer disconnected; fall through and drop it.
+            } finally {
+                spectators.remove(this);
+                close();
+            }
+        }
+    }
+}